@@ -1,21 +1,304 @@
 package ml.kanfa.gen;
 
 
-import java.util.List;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
 
 /**
+ * Class Main
+ * Batch runner generating the generations of a shard of ranks, either as
+ * words or in a compact binary format, several processes can split the
+ * work by running distinct shards of the same generation.
+ *
+ * <p>Binary format, big endian: magic <code>GENI</code>, version (byte),
+ * mode (byte, 0 combination, 1 permutation), n (int), p (int), from (long),
+ * to (long), index width in bytes (byte), then for each generation p 1-based
+ * values indexes of index width bytes.</p>
+ *
  * @author Ibrahim Maïga <maiga.ibrm@gmail.com>
  */
-public interface Main {
-
-    static void main(String... args) {
-        Generator<String> permutation = Generators.newPermutation("A,B,G,D,T,X,K,E,R,P,2,3,4".split(","));
-        Generator<String> combination = Generators.newCombination("A,B,G,D,T,X,K,E,R,P,2,3,4".split(","));
-        List<List<String>> combinationList = combination.generate(5);
-        List<List<String>> permutationList = permutation.generate(5);
-        System.out.println("List of combination");
-        System.out.println(combinationList);
-        System.out.println("Permutation size");
-        System.out.println(permutationList.size());
+public class Main {
+
+    private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+
+    static final byte[] MAGIC = {'G', 'E', 'N', 'I'};
+    static final byte VERSION = 1;
+
+    private static final String USAGE = "Usage: Main --alphabet A,B,C --p 2 [--mode combination|permutation]"
+            + " [--shard i/k] [--format text|binary] [--separator c] [--output file]";
+    private static final Set<String> OPTIONS = new HashSet<>(Arrays.asList("alphabet", "p", "mode", "shard",
+            "format", "separator", "output"));
+    private static final Set<String> FORMATS = new HashSet<>(Arrays.asList("text", "binary"));
+    private static final long PROGRESS_INTERVAL = 5000;
+
+    /**
+     * Suppresses default constructor to prevent instantiation
+     */
+    private Main() {
+    }
+
+    public static void main(String... args) {
+        final Map<String, String> options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        try {
+            run(options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (ArithmeticException e) {
+            System.err.println("Generation count exceeds 2^63-1, ranks are limited to a long");
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * @param args command line arguments, as <code>--name value</code> pairs
+     * @return options by name
+     */
+    static Map<String, String> parse(String... args) {
+        final Map<String, String> options = new HashMap<>();
+        options.put("mode", "combination");
+        options.put("shard", "0/1");
+        options.put("format", "text");
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument " + args[i]);
+            }
+            final String name = args[i].substring(2);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            options.put(name, args[i + 1]);
+        }
+        if (!options.containsKey("alphabet") || !options.containsKey("p")) {
+            throw new IllegalArgumentException("--alphabet and --p are required");
+        }
+        try {
+            Integer.parseInt(options.get("p"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid p " + options.get("p"));
+        }
+        isPermutation(options.get("mode"));
+        parseShard(options.get("shard"));
+        if (!FORMATS.contains(options.get("format"))) {
+            throw new IllegalArgumentException("Invalid format " + options.get("format"));
+        }
+        return options;
+    }
+
+    /**
+     * @param shard shard option, as <code>i/k</code>
+     * @return the 0-based shard number and the number of shards
+     */
+    private static int[] parseShard(String shard) {
+        final String[] parts = shard.split("/");
+        try {
+            if (parts.length == 2) {
+                int i = Integer.parseInt(parts[0]);
+                int k = Integer.parseInt(parts[1]);
+                if (k > 0 && i >= 0 && i < k) {
+                    return new int[]{i, k};
+                }
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid shard " + shard + ", expected i/k with 0 <= i < k");
+    }
+
+    /**
+     * The options are validated by {@link #parse(String...)} and p against the
+     * alphabet before the output is opened, an invalid run leaves it untouched.
+     *
+     * @param options parsed options
+     * @throws IOException if the output can not be written
+     */
+    static void run(final Map<String, String> options) throws IOException {
+        final String[] alphabet = options.get("alphabet").split(",");
+        final int p = Integer.parseInt(options.get("p"));
+        final boolean permutation = isPermutation(options.get("mode"));
+        final Generator<String> generator = permutation
+                ? Generators.newPermutation(alphabet)
+                : Generators.newCombination(alphabet);
+        final int[] shard = parseShard(options.get("shard"));
+        final long total = generator.count(p);
+        final long[] range = shard(total, shard[0], shard[1]);
+        final String output = options.get("output");
+        LOGGER.info("Shard " + options.get("shard") + " of " + total + " generations, ranks ["
+                + range[0] + ", " + range[1] + ")");
+        try (OutputStream out = new BufferedOutputStream(output == null
+                ? new FileOutputStream(FileDescriptor.out)
+                : new FileOutputStream(output), 1 << 16)) {
+            final Progress progress = new Progress(range[1] - range[0]);
+            final Consumer<int[]> writer;
+            switch (options.get("format")) {
+                case "text":
+                    final String separator = options.getOrDefault("separator", "");
+                    writer = textWriter(alphabet, separator, out);
+                    break;
+                case "binary":
+                    final DataOutputStream data = new DataOutputStream(out);
+                    final int width = indexWidth(alphabet.length);
+                    writeHeader(data, permutation, alphabet.length, p, range[0], range[1], width);
+                    writer = binaryWriter(data, width);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid format " + options.get("format"));
+            }
+            try {
+                generator.forEachIndex(p, range[0], range[1], writer.andThen(index -> progress.increment()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            progress.done();
+        }
+    }
+
+    private static boolean isPermutation(String mode) {
+        switch (mode) {
+            case "combination":
+                return false;
+            case "permutation":
+                return true;
+            default:
+                throw new IllegalArgumentException("Invalid mode " + mode);
+        }
+    }
+
+    /**
+     * Cuts [0, total) in k contiguous ranges of sizes differing at most by one
+     *
+     * @param total number of generations
+     * @param i     0-based shard number
+     * @param k     number of shards
+     * @return the ranks range [from, to) of shard i
+     */
+    static long[] shard(long total, int i, int k) {
+        if (k <= 0 || i < 0 || i >= k) {
+            throw new IllegalArgumentException("Invalid shard " + i + "/" + k);
+        }
+        long size = total / k;
+        long mod = total % k;
+        long from = i * size + Math.min(i, mod);
+        return new long[]{from, from + size + (i < mod ? 1 : 0)};
+    }
+
+    /**
+     * @param n elements size
+     * @return number of bytes needed to store a 1-based index
+     */
+    static int indexWidth(int n) {
+        return n <= 0xFF ? 1 : (n <= 0xFFFF ? 2 : 4);
+    }
+
+    static void writeHeader(final DataOutputStream data, boolean permutation, int n, int p, long from, long to,
+                            int width) throws IOException {
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(permutation ? 1 : 0);
+        data.writeInt(n);
+        data.writeInt(p);
+        data.writeLong(from);
+        data.writeLong(to);
+        data.writeByte(width);
+    }
+
+    private static Consumer<int[]> textWriter(final String[] alphabet, final String separator,
+                                              final OutputStream out) {
+        final byte[][] values = Arrays.stream(alphabet)
+                .map(value -> value.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        final byte[] separatorBytes = separator.getBytes(StandardCharsets.UTF_8);
+        return index -> {
+            try {
+                for (int i = 0; i < index.length; i++) {
+                    if (i > 0) {
+                        out.write(separatorBytes);
+                    }
+                    out.write(values[index[i] - 1]);
+                }
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static Consumer<int[]> binaryWriter(final DataOutputStream data, int width) {
+        return index -> {
+            try {
+                for (int i : index) {
+                    if (width == 1) {
+                        data.writeByte(i);
+                    } else if (width == 2) {
+                        data.writeShort(i);
+                    } else {
+                        data.writeInt(i);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * Inner Class Progress
+     * Logs the progression and the throughput of the shard
+     */
+    private static class Progress {
+
+        private final long total;
+        private final long start = System.currentTimeMillis();
+        private long count;
+        private long last = start;
+
+        Progress(long total) {
+            this.total = total;
+        }
+
+        void increment() {
+            if ((++this.count & 0xFFFF) == 0) {
+                long now = System.currentTimeMillis();
+                if (now - this.last >= PROGRESS_INTERVAL) {
+                    this.last = now;
+                    LOGGER.info(String.format("%d/%d (%.1f%%), %.0f generations/s", this.count, this.total,
+                            100.0 * this.count / this.total, rate(now)));
+                }
+            }
+        }
+
+        void done() {
+            long now = System.currentTimeMillis();
+            LOGGER.info(String.format("%d generations in %.3f s, %.0f generations/s", this.count,
+                    (now - this.start) / 1000.0, rate(now)));
+        }
+
+        private double rate(long now) {
+            return 1000.0 * this.count / Math.max(1, now - this.start);
+        }
     }
 }
@@ -0,0 +1,97 @@
+package ml.kanfa.gen;
+
+import junit.framework.TestCase;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class MainTest.
+ * Contains {@link Main} batch runner tests.
+ *
+ * @author Ibrahim Maïga <maiga.ibrm@gmail.com>.
+ */
+public class MainTest extends TestCase {
+
+    public void testShardsCoverAllRanks() {
+        long to = 0;
+        for (int i = 0; i < 7; i++) {
+            long[] range = Main.shard(100, i, 7);
+            assertEquals(to, range[0]);
+            assertTrue(range[1] - range[0] == 14 || range[1] - range[0] == 15);
+            to = range[1];
+        }
+        assertEquals(100, to);
+    }
+
+    public void testUnknownOptionIsRejected() {
+        try {
+            Main.parse("--alphabet", "A,B,C", "--p", "2", "--ouptut", "x.txt");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown option --ouptut", e.getMessage());
+        }
+    }
+
+    public void testInvalidOptionsLeaveOutputUntouched() throws IOException {
+        File file = File.createTempFile("generator", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "previous shard".getBytes(StandardCharsets.UTF_8));
+        String[][] invalids = {{"--format", "xml"}, {"--mode", "arrangement"}, {"--shard", "2/2"}, {"--p", "x"}};
+        for (String[] invalid : invalids) {
+            try {
+                Main.parse("--alphabet", "A,B,C", "--p", "2", invalid[0], invalid[1], "--output", file.getPath());
+                fail("IllegalArgumentException expected for " + invalid[0]);
+            } catch (IllegalArgumentException e) {
+                assertEquals("previous shard", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            }
+        }
+        try {
+            Main.run(Main.parse("--alphabet", "A,B,C", "--p", "4", "--output", file.getPath()));
+            fail("IllegalArgumentException expected for p > n");
+        } catch (IllegalArgumentException e) {
+            assertEquals("previous shard", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        }
+    }
+
+    public void testTextOutput() throws IOException {
+        File file = File.createTempFile("generator", ".txt");
+        file.deleteOnExit();
+        Map<String, String> options = Main.parse("--alphabet", "A,B,C", "--p", "2", "--mode", "permutation",
+                "--shard", "1/2", "--output", file.getPath());
+        Main.run(options);
+        List<String> words = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("BC", "CA", "CB"), words);
+    }
+
+    public void testBinaryOutput() throws IOException {
+        File file = File.createTempFile("generator", ".bin");
+        file.deleteOnExit();
+        Map<String, String> options = Main.parse("--alphabet", "A,B,C", "--p", "2", "--format", "binary",
+                "--output", file.getPath());
+        Main.run(options);
+        try (DataInputStream data = new DataInputStream(new FileInputStream(file))) {
+            byte[] magic = new byte[Main.MAGIC.length];
+            data.readFully(magic);
+            assertTrue(Arrays.equals(Main.MAGIC, magic));
+            assertEquals(Main.VERSION, data.readByte());
+            assertEquals(0, data.readByte());
+            assertEquals(3, data.readInt());
+            assertEquals(2, data.readInt());
+            assertEquals(0, data.readLong());
+            assertEquals(3, data.readLong());
+            assertEquals(1, data.readByte());
+            byte[] indexes = new byte[6];
+            data.readFully(indexes);
+            assertTrue(Arrays.equals(new byte[]{1, 2, 1, 3, 2, 3}, indexes));
+            assertEquals(-1, data.read());
+        }
+    }
+}
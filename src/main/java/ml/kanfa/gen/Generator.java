@@ -1,6 +1,9 @@
 package ml.kanfa.gen;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Interface Generator
@@ -34,4 +37,86 @@ public interface Generator<T> {
     default List<String> generateToWord(int p) {
         return generateToWord(p, ' ');
     }
+
+    /**
+     * @param p generation length
+     * @return number of generations of length p
+     * @throws IllegalArgumentException if p is not in [1, n]
+     * @throws ArithmeticException      if the count does not fit in a {@code long}
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    long count(int p);
+
+    /**
+     * Same as {@link #generate(int)}, but the generations are in strictly
+     * lexicographic order of the values indexes, whatever the parallelism.
+     *
+     * @param p generation length
+     * @return a list of element list in lexicographic order of indexes
+     * @throws IllegalArgumentException if p is not in [1, n], or if the count exceeds
+     *                                  {@code Integer.MAX_VALUE - 8}, the largest list size
+     * @throws ArithmeticException      if the count does not fit in a {@code long}
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    List<List<T>> generateLexicographic(int p);
+
+    /**
+     * Same as {@link #generateLexicographic(int)}, the values being ordered
+     * by <code>comparator</code>, equal values keep their initial order.
+     *
+     * @param p          generation length
+     * @param comparator values comparator
+     * @return a list of element list in lexicographic order of values
+     * @throws IllegalArgumentException if p is not in [1, n], or if the count exceeds
+     *                                  {@code Integer.MAX_VALUE - 8}, the largest list size
+     * @throws ArithmeticException      if the count does not fit in a {@code long}
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    List<List<T>> generateLexicographic(int p, Comparator<? super T> comparator);
+
+    /**
+     * Performs <code>action</code> on the 1-based values indexes of the generations
+     * of ranks [from, to) in lexicographic order, without storing them,
+     * the array is reused and must neither be modified nor retained.
+     *
+     * @param p      generation length
+     * @param from   rank of the first generation, inclusive
+     * @param to     rank of the last generation, exclusive
+     * @param action action to perform on each generation indexes
+     * @throws IllegalArgumentException  if p is not in [1, n]
+     * @throws IndexOutOfBoundsException if [from, to) is not a range of ranks
+     * @throws ArithmeticException       if the count does not fit in a {@code long}
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    void forEachIndex(int p, long from, long to, Consumer<int[]> action);
+
+    /**
+     * Scores every generation of length p in parallel and keeps the k best,
+     * the list given to <code>scorer</code> is a view which must not be retained.
+     * Scores are ordered by {@link Double#compare(double, double)}, so NaN is
+     * above any score and 0.0 above -0.0.
+     *
+     * @param p      generation length
+     * @param k      number of generations to keep
+     * @param scorer generation scoring function
+     * @return the k best generations, best first, equal scores in lexicographic order
+     * @throws IllegalArgumentException if p is not in [1, n] or if k &lt;= 0
+     * @throws ArithmeticException      if the count does not fit in a {@code long}
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    List<List<T>> topK(int p, int k, ToDoubleFunction<List<T>> scorer);
+
+    /**
+     * Same as {@link #topK(int, int, ToDoubleFunction)}, <code>scorer</code> receives
+     * the 1-based values indexes, the array must neither be modified nor retained.
+     *
+     * @param p      generation length
+     * @param k      number of generations to keep
+     * @param scorer indexes scoring function
+     * @return the k best generations, best first, equal scores in lexicographic order
+     * @throws IllegalArgumentException if p is not in [1, n] or if k &lt;= 0
+     * @throws ArithmeticException      if the count does not fit in a {@code long}
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    List<List<T>> topKByIndex(int p, int k, ToDoubleFunction<int[]> scorer);
 }
\ No newline at end of file
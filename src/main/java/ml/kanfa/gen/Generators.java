@@ -1,18 +1,31 @@
 package ml.kanfa.gen;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class Generators
@@ -45,7 +58,7 @@ public class Generators {
      */
     @SafeVarargs
     @SuppressWarnings("UnusedDeclaration")
-    public static <T> Generator<T> newCombination(final T... args) {
+    public static <T> SubsetGenerator<T> newCombination(final T... args) {
         return new Combination<>(args);
     }
 
@@ -81,6 +94,14 @@ public class Generators {
         return () -> LazyPool.pool;
     }
 
+    /**
+     * @param size number of generations
+     * @return number of generations handled by a single task
+     */
+    private static long rangeLimit(long size) {
+        return Math.max(1000, size / LazyPool.parallelism);
+    }
+
     private static List<List<Integer>> createIndex(int n, int p) {
         List<List<Integer>> lists = createFirst(n);
         if (p > 0 && p <= n) {
@@ -142,6 +163,84 @@ public class Generators {
         throw new IllegalArgumentException(message);
     }
 
+    /**
+     * Throws {@link java.lang.IllegalArgumentException} if p is not in [1, n]
+     *
+     * @param n elements size
+     * @param p generation length
+     */
+    private static void checkLength(int n, int p) {
+        if (p <= 0 || p > n) {
+            throwIllegalArgumentException(n, p);
+        }
+    }
+
+    /**
+     * Throws {@link java.lang.IllegalArgumentException} if p is not in [0, n],
+     * the empty subset being the only one of length 0
+     *
+     * @param n elements size
+     * @param p subset length
+     */
+    private static void checkSubsetLength(int n, int p) {
+        if (p < 0 || p > n) {
+            throwIllegalArgumentException(n, p);
+        }
+    }
+
+    /**
+     * Throws {@link java.lang.IllegalArgumentException} if n does not fit in a mask
+     *
+     * @param n elements size
+     */
+    private static void checkMaskSize(int n) {
+        if (n > Long.SIZE) {
+            throw new IllegalArgumentException("n > " + Long.SIZE);
+        }
+    }
+
+    /**
+     * Returns the number of combinations of p elements among n,
+     * 0 if p is not in [0, n]
+     *
+     * @param n elements size
+     * @param p generation length
+     * @return the binomial coefficient (n p)
+     * @throws ArithmeticException if the result overflows a {@code long}
+     */
+    private static long binomial(int n, int p) {
+        if (p < 0 || p > n) {
+            return 0;
+        }
+        int k = Math.min(p, n - p);
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            long gcd = gcd(result, i);
+            result = Math.multiplyExact(result / gcd, (n - k + i) / (i / gcd));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of arrangements of p elements among n
+     *
+     * @param n elements size
+     * @param p generation length
+     * @return n! / (n - p)!
+     * @throws ArithmeticException if the result overflows a {@code long}
+     */
+    private static long arrangement(int n, int p) {
+        long result = 1;
+        for (int i = n - p + 1; i <= n; i++) {
+            result = Math.multiplyExact(result, i);
+        }
+        return result;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
     /**
      * Returns a list consisting of numbers less than or equal
      * to the value <code>n</code>, all generations are based on this
@@ -156,6 +255,197 @@ public class Generators {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Inner Class IndexCursor
+     * Walks the generations of a given length in lexicographic order,
+     * <code>index</code> holds the current generation as 1-based indexes.
+     */
+    private static abstract class IndexCursor {
+
+        final int[] index;
+
+        IndexCursor(int p) {
+            this.index = new int[p];
+        }
+
+        /**
+         * Moves to the next generation in lexicographic order
+         *
+         * @return false if the current generation was the last one
+         */
+        abstract boolean next();
+    }
+
+    /**
+     * Inner Class MaskSpliterator
+     * Walks the masks of p bits among n in increasing unsigned order with
+     * Gosper's hack, splits by colex rank range.
+     */
+    private static class MaskSpliterator implements Spliterator.OfLong {
+
+        private static final long LIMIT = 1000;
+
+        private final int p;
+        private long rank;
+        private final long end;
+        private long mask;
+
+        MaskSpliterator(int p, long rank, long end) {
+            this.p = p;
+            this.rank = rank;
+            this.end = end;
+            this.mask = unrank(p, rank);
+        }
+
+        /**
+         * @param p    bits count
+         * @param rank colex rank
+         * @return the mask of p bits of rank <code>rank</code>
+         */
+        private static long unrank(int p, long rank) {
+            long mask = 0;
+            long remainder = rank;
+            for (int i = p; i > 0; i--) {
+                int c = i - 1;
+                while (binomial(c + 1, i) <= remainder) {
+                    c++;
+                }
+                mask |= 1L << c;
+                remainder -= binomial(c, i);
+            }
+            return mask;
+        }
+
+        private static long next(long mask) {
+            long r = mask + (mask & -mask);
+            return (((r ^ mask) >>> 2) >>> Long.numberOfTrailingZeros(mask)) | r;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (this.rank >= this.end) {
+                return false;
+            }
+            action.accept(this.mask);
+            if (++this.rank < this.end) {
+                this.mask = next(this.mask);
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long mask = this.mask;
+            for (long rank = this.rank; rank < this.end; rank++) {
+                if (rank > this.rank) {
+                    mask = next(mask);
+                }
+                action.accept(mask);
+            }
+            this.mask = mask;
+            this.rank = this.end;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long size = this.end - this.rank;
+            if (size <= LIMIT) {
+                return null;
+            }
+            long middle = this.rank + size / 2;
+            final MaskSpliterator prefix = new MaskSpliterator(this.p, this.rank, middle);
+            this.rank = middle;
+            this.mask = unrank(this.p, middle);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.end - this.rank;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Inner Class BitSetSpliterator
+     * Walks the combinations of p elements among n as {@link BitSet},
+     * in lexicographic order, splits by rank range, unless the combinations
+     * count does not fit in a {@code long}, the spliterator being unsized then.
+     */
+    private static class BitSetSpliterator implements Spliterator<BitSet> {
+
+        private static final long LIMIT = 1000;
+
+        private final int n;
+        private final int p;
+        private long rank;
+        private final long end;
+        private final boolean sized;
+        private IndexCursor cursor;
+        private boolean exhausted;
+
+        BitSetSpliterator(int n, int p, long rank, long end) {
+            this.n = n;
+            this.p = p;
+            this.rank = rank;
+            this.end = end;
+            this.sized = true;
+        }
+
+        BitSetSpliterator(int n, int p) {
+            this.n = n;
+            this.p = p;
+            this.end = Long.MAX_VALUE;
+            this.sized = false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super BitSet> action) {
+            if (this.exhausted || (this.sized && this.rank >= this.end)) {
+                return false;
+            }
+            if (this.cursor == null) {
+                this.cursor = new Combination.CombinationCursor(this.n, this.p, this.rank);
+            } else if (!this.cursor.next()) {
+                this.exhausted = true;
+                return false;
+            }
+            final BitSet bitSet = new BitSet(this.n);
+            for (int i : this.cursor.index) {
+                bitSet.set(i - 1);
+            }
+            this.rank++;
+            action.accept(bitSet);
+            return true;
+        }
+
+        @Override
+        public Spliterator<BitSet> trySplit() {
+            long size = this.end - this.rank;
+            if (!this.sized || this.cursor != null || size <= LIMIT) {
+                return null;
+            }
+            long middle = this.rank + size / 2;
+            final BitSetSpliterator prefix = new BitSetSpliterator(this.n, this.p, this.rank, middle);
+            this.rank = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.sized ? this.end - this.rank : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | IMMUTABLE | (this.sized ? SIZED | SUBSIZED : 0);
+        }
+    }
+
     /**
      * Inner Class Permutation
      *
@@ -172,6 +462,17 @@ public class Generators {
             return runTask(indexes, p);
         }
 
+        @Override
+        public long count(int p) {
+            checkLength(this.n, p);
+            return arrangement(this.n, p);
+        }
+
+        @Override
+        protected IndexCursor cursor(int p, long rank) {
+            return new PermutationCursor(this.n, p, rank);
+        }
+
         /**
          * Returns list of list the all combination corresponding to initial start in pos
          *
@@ -257,6 +558,64 @@ public class Generators {
             array.set(array.size() - 1, first);
         }
 
+        /**
+         * Inner Class PermutationCursor
+         * Walks the arrangements of p elements among n in lexicographic order
+         */
+        private static class PermutationCursor extends IndexCursor {
+
+            private final boolean[] used;
+            private final int n;
+
+            PermutationCursor(int n, int p, long rank) {
+                super(p);
+                this.n = n;
+                this.used = new boolean[n + 1];
+                long remainder = rank;
+                for (int i = 0; i < p; i++) {
+                    long block = arrangement(n - i - 1, p - i - 1);
+                    int digit = (int) (remainder / block);
+                    remainder %= block;
+                    int value = 0;
+                    do {
+                        value++;
+                        if (!this.used[value]) {
+                            digit--;
+                        }
+                    } while (digit >= 0);
+                    this.index[i] = value;
+                    this.used[value] = true;
+                }
+            }
+
+            @Override
+            boolean next() {
+                for (int i = this.index.length - 1; i >= 0; i--) {
+                    this.used[this.index[i]] = false;
+                    for (int value = this.index[i] + 1; value <= this.n; value++) {
+                        if (!this.used[value]) {
+                            this.index[i] = value;
+                            this.used[value] = true;
+                            fill(i + 1);
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            }
+
+            private void fill(int from) {
+                int value = 1;
+                for (int i = from; i < this.index.length; i++) {
+                    while (this.used[value]) {
+                        value++;
+                    }
+                    this.index[i] = value;
+                    this.used[value] = true;
+                }
+            }
+        }
+
         @SuppressWarnings("UnusedDeclaration")
         private class PermutationRecursiveTask extends RecursiveTask<List<List<Integer>>> {
 
@@ -313,7 +672,7 @@ public class Generators {
      *
      * @param <T>
      */
-    private static class Combination<T> extends AbstractGenerator<T> {
+    private static class Combination<T> extends AbstractGenerator<T> implements SubsetGenerator<T> {
         @SafeVarargs
         Combination(final T... values) {
             super(values);
@@ -323,6 +682,194 @@ public class Generators {
         protected List<List<Integer>> generateIndex(int p) {
             return createIndex(this.n, p);
         }
+
+        @Override
+        public long count(int p) {
+            checkLength(this.n, p);
+            return binomial(this.n, p);
+        }
+
+        @Override
+        protected IndexCursor cursor(int p, long rank) {
+            return new CombinationCursor(this.n, p, rank);
+        }
+
+        /**
+         * Inner Class CombinationCursor
+         * Walks the combinations of p elements among n in lexicographic order
+         */
+        private static class CombinationCursor extends IndexCursor {
+
+            private final int n;
+
+            CombinationCursor(int n, int p, long rank) {
+                super(p);
+                this.n = n;
+                long remainder = rank;
+                int value = 1;
+                for (int i = 0; i < p; i++) {
+                    long block;
+                    while (remainder > 0 && remainder >= (block = binomial(n - value, p - i - 1))) {
+                        remainder -= block;
+                        value++;
+                    }
+                    this.index[i] = value++;
+                }
+            }
+
+            @Override
+            boolean next() {
+                int p = this.index.length;
+                int i = p - 1;
+                while (i >= 0 && this.index[i] == this.n - p + i + 1) {
+                    i--;
+                }
+                if (i < 0) {
+                    return false;
+                }
+                this.index[i]++;
+                for (int j = i + 1; j < p; j++) {
+                    this.index[j] = this.index[j - 1] + 1;
+                }
+                return true;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public LongStream subsetMasks() {
+            checkMaskSize(this.n);
+            if (this.n < Long.SIZE) {
+                return LongStream.range(0, 1L << this.n);
+            }
+            return LongStream.concat(LongStream.rangeClosed(0, Long.MAX_VALUE), LongStream.range(Long.MIN_VALUE, 0));
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public LongStream subsetMasks(int p) {
+            checkMaskSize(this.n);
+            checkSubsetLength(this.n, p);
+            return StreamSupport.longStream(new MaskSpliterator(p, 0, binomial(this.n, p)), false);
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public Stream<BitSet> subsetBitSets(int p) {
+            checkSubsetLength(this.n, p);
+            final long size;
+            try {
+                size = binomial(this.n, p);
+            } catch (ArithmeticException e) {
+                return StreamSupport.stream(new BitSetSpliterator(this.n, p), false);
+            }
+            return StreamSupport.stream(new BitSetSpliterator(this.n, p, 0, size), false);
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public List<T> valuesOf(long mask) {
+            if (this.n < Long.SIZE && (mask >>> this.n) != 0) {
+                throw new IndexOutOfBoundsException("mask bit >= " + this.n);
+            }
+            return new MaskValues<>(this.tArray, mask);
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public List<T> valuesOf(BitSet bitSet) {
+            if (bitSet.length() > this.n) {
+                throw new IndexOutOfBoundsException("bitSet bit >= " + this.n);
+            }
+            return new AbstractGenerator.IndexValues<>(this.tArray, bitSet.stream().map(i -> i + 1).toArray());
+        }
+
+        /**
+         * Inner Class MaskValues
+         * Values view of a mask, bit i standing for the value i,
+         * iterating walks the set bits, get is only for random access
+         *
+         * @param <T>
+         */
+        private static class MaskValues<T> extends AbstractList<T> {
+
+            private final List<T> tArray;
+            private final long mask;
+
+            MaskValues(final List<T> tArray, long mask) {
+                this.tArray = tArray;
+                this.mask = mask;
+            }
+
+            @Override
+            public T get(int i) {
+                if (i < 0 || i >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+                }
+                long mask = this.mask;
+                for (int j = 0; j < i; j++) {
+                    mask &= mask - 1;
+                }
+                return this.tArray.get(Long.numberOfTrailingZeros(mask));
+            }
+
+            @Override
+            public int size() {
+                return Long.bitCount(this.mask);
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return new Iterator<T>() {
+                    private long remaining = MaskValues.this.mask;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.remaining != 0;
+                    }
+
+                    @Override
+                    public T next() {
+                        if (this.remaining == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        final T value = MaskValues.this.tArray.get(Long.numberOfTrailingZeros(this.remaining));
+                        this.remaining &= this.remaining - 1;
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public void forEach(Consumer<? super T> action) {
+                Objects.requireNonNull(action);
+                for (long remaining = this.mask; remaining != 0; remaining &= remaining - 1) {
+                    action.accept(this.tArray.get(Long.numberOfTrailingZeros(remaining)));
+                }
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (o == this) {
+                    return true;
+                }
+                if (!(o instanceof List)) {
+                    return false;
+                }
+                final Iterator<?> other = ((List<?>) o).iterator();
+                for (T value : this) {
+                    if (!other.hasNext() || !Objects.equals(value, other.next())) {
+                        return false;
+                    }
+                }
+                return !other.hasNext();
+            }
+
+            @Override
+            public int hashCode() {
+                return super.hashCode();
+            }
+        }
     }
 
     /**
@@ -333,7 +880,7 @@ public class Generators {
     private static abstract class AbstractGenerator<T> implements Generator<T> {
 
         private static final String IDENTITY = "";
-        private final List<T> tArray;
+        final List<T> tArray;
         int n;
 
         @SafeVarargs
@@ -350,6 +897,13 @@ public class Generators {
          */
         protected abstract List<List<Integer>> generateIndex(int p);
 
+        /**
+         * @param p    generation length
+         * @param rank rank of the first generation, in lexicographic order
+         * @return a cursor positioned on the generation of rank <code>rank</code>
+         */
+        protected abstract IndexCursor cursor(int p, long rank);
+
         @Override
         @SuppressWarnings("UnusedDeclaration")
         public List<String> generateToWord(int p, char separator) {
@@ -363,6 +917,84 @@ public class Generators {
             return this.generate(this.generateIndex(p));
         }
 
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public List<List<T>> generateLexicographic(int p) {
+            return this.generateLexicographic(this.tArray, p);
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public List<List<T>> generateLexicographic(int p, Comparator<? super T> comparator) {
+            Objects.requireNonNull(comparator);
+            final List<T> sorted = new ArrayList<>(this.tArray);
+            sorted.sort(comparator);
+            return this.generateLexicographic(sorted, p);
+        }
+
+        /**
+         * Generations are cut by rank range and the ranges are concatenated
+         * in order, so no final sort is needed.
+         *
+         * @param values values in the desired order
+         * @param p      generation length
+         * @return a list of element list in lexicographic order of <code>values</code>
+         */
+        private List<List<T>> generateLexicographic(final List<T> values, int p) {
+            final long size = this.count(p);
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("count > Integer.MAX_VALUE - 8");
+            }
+            LOGGER.info("Lexicographic generation start");
+            final LexicographicRecursiveTask task = new LexicographicRecursiveTask(values, p, 0, size,
+                    rangeLimit(size));
+            return pool().get().invoke(task);
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public void forEachIndex(int p, long from, long to, Consumer<int[]> action) {
+            Objects.requireNonNull(action);
+            final long size = this.count(p);
+            if (from < 0 || from > to || to > size) {
+                throw new IndexOutOfBoundsException("[" + from + ", " + to + ") not in [0, " + size + ")");
+            }
+            if (from == to) {
+                return;
+            }
+            final IndexCursor cursor = cursor(p, from);
+            action.accept(cursor.index);
+            for (long rank = from + 1; rank < to; rank++) {
+                cursor.next();
+                action.accept(cursor.index);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public List<List<T>> topK(int p, int k, ToDoubleFunction<List<T>> scorer) {
+            Objects.requireNonNull(scorer);
+            return this.topKByIndex(p, k, index -> scorer.applyAsDouble(new IndexValues<>(this.tArray, index)));
+        }
+
+        @Override
+        @SuppressWarnings("UnusedDeclaration")
+        public List<List<T>> topKByIndex(int p, int k, ToDoubleFunction<int[]> scorer) {
+            Objects.requireNonNull(scorer);
+            if (k <= 0) {
+                throw new IllegalArgumentException("k <= 0");
+            }
+            final long size = this.count(p);
+            LOGGER.info("Top " + k + " search start");
+            final TopKRecursiveTask task = new TopKRecursiveTask(scorer, p, k, 0, size, rangeLimit(size),
+                    new AtomicLong(Double.doubleToLongBits(Double.NEGATIVE_INFINITY)));
+            final List<Scored> best = new ArrayList<>(pool().get().invoke(task));
+            best.sort(Scored.WORST_FIRST.reversed());
+            return best.stream()
+                    .<List<T>>map(scored -> new ArrayList<>(new IndexValues<>(this.tArray, scored.index)))
+                    .collect(Collectors.toList());
+        }
+
         private String toWord(final List<Integer> lIndex, char separator) {
             Objects.requireNonNull(lIndex);
             final String separatorInString = separator == ' ' ? "" : String.valueOf(separator);
@@ -385,6 +1017,232 @@ public class Generators {
             return pool().get().invoke(task);
         }
 
+        /**
+         * Inner Class LexicographicRecursiveTask
+         * Generates the values of ranks [from, to) in lexicographic order
+         */
+        private class LexicographicRecursiveTask extends RecursiveTask<List<List<T>>> {
+
+            private final List<T> values;
+            private final int p;
+            private final long from;
+            private final long to;
+            private final long limit;
+
+            LexicographicRecursiveTask(final List<T> values, int p, long from, long to, long limit) {
+                this.values = Objects.requireNonNull(values);
+                this.p = p;
+                this.from = from;
+                this.to = to;
+                this.limit = limit;
+            }
+
+            @Override
+            protected List<List<T>> compute() {
+                long size = this.to - this.from;
+                if (size > this.limit) {
+                    return ForkJoinTask
+                            .invokeAll(createLexicographicTasks())
+                            .stream()
+                            .map(ForkJoinTask::join)
+                            .flatMap(List::stream)
+                            .collect(Collectors.toList());
+                } else {
+                    return generateRange();
+                }
+            }
+
+            private List<LexicographicRecursiveTask> createLexicographicTasks() {
+                final List<LexicographicRecursiveTask> tasks = new ArrayList<>();
+                for (long start = this.from; start < this.to; start += this.limit) {
+                    tasks.add(new LexicographicRecursiveTask(this.values, this.p, start,
+                            Math.min(start + this.limit, this.to), this.limit));
+                }
+                return tasks;
+            }
+
+            private List<List<T>> generateRange() {
+                final List<List<T>> lists = new ArrayList<>((int) (this.to - this.from));
+                if (this.from == this.to) {
+                    return lists;
+                }
+                final IndexCursor cursor = cursor(this.p, this.from);
+                for (long rank = this.from; rank < this.to; rank++) {
+                    if (rank > this.from) {
+                        cursor.next();
+                    }
+                    final List<T> list = new ArrayList<>(this.p);
+                    for (int i : cursor.index) {
+                        list.add(this.values.get(i - 1));
+                    }
+                    lists.add(list);
+                }
+                return lists;
+            }
+        }
+
+        /**
+         * Inner Class TopKRecursiveTask
+         * Keeps the k best generations of ranks [from, to) in a bounded heap,
+         * scores being ordered by {@link Double#compare(double, double)},
+         * the shared threshold is the best k-th score known by any task, a
+         * generation scoring below it can not be among the k best.
+         */
+        private class TopKRecursiveTask extends RecursiveTask<PriorityQueue<Scored>> {
+
+            private static final int HEAP_CAPACITY = 1024;
+
+            private final ToDoubleFunction<int[]> scorer;
+            private final int p;
+            private final int k;
+            private final long from;
+            private final long to;
+            private final long limit;
+            private final AtomicLong threshold;
+
+            TopKRecursiveTask(final ToDoubleFunction<int[]> scorer, int p, int k, long from, long to, long limit,
+                              final AtomicLong threshold) {
+                this.scorer = Objects.requireNonNull(scorer);
+                this.p = p;
+                this.k = k;
+                this.from = from;
+                this.to = to;
+                this.limit = limit;
+                this.threshold = Objects.requireNonNull(threshold);
+            }
+
+            @Override
+            protected PriorityQueue<Scored> compute() {
+                long size = this.to - this.from;
+                if (size > this.limit) {
+                    final PriorityQueue<Scored> heap = this.createHeap(size);
+                    ForkJoinTask
+                            .invokeAll(createTopKTasks())
+                            .stream()
+                            .map(ForkJoinTask::join)
+                            .flatMap(PriorityQueue::stream)
+                            .filter(scored -> this.accepts(heap, scored.score, scored.rank))
+                            .forEach(scored -> this.add(heap, scored));
+                    return heap;
+                } else {
+                    return searchRange();
+                }
+            }
+
+            private List<TopKRecursiveTask> createTopKTasks() {
+                final List<TopKRecursiveTask> tasks = new ArrayList<>();
+                for (long start = this.from; start < this.to; start += this.limit) {
+                    tasks.add(new TopKRecursiveTask(this.scorer, this.p, this.k, start,
+                            Math.min(start + this.limit, this.to), this.limit, this.threshold));
+                }
+                return tasks;
+            }
+
+            private PriorityQueue<Scored> searchRange() {
+                final PriorityQueue<Scored> heap = this.createHeap(this.to - this.from);
+                if (this.from == this.to) {
+                    return heap;
+                }
+                final IndexCursor cursor = cursor(this.p, this.from);
+                for (long rank = this.from; rank < this.to; rank++) {
+                    if (rank > this.from) {
+                        cursor.next();
+                    }
+                    double score = this.scorer.applyAsDouble(cursor.index);
+                    if (Double.compare(score, Double.longBitsToDouble(this.threshold.get())) < 0) {
+                        continue;
+                    }
+                    if (this.accepts(heap, score, rank)) {
+                        this.add(heap, new Scored(score, rank, cursor.index.clone()));
+                        if (heap.size() == this.k) {
+                            this.share(heap.peek().score);
+                        }
+                    }
+                }
+                return heap;
+            }
+
+            /**
+             * The initial capacity is bounded, the heap grows with the kept generations
+             */
+            private PriorityQueue<Scored> createHeap(long size) {
+                return new PriorityQueue<>((int) Math.min(Math.min(size, this.k), HEAP_CAPACITY) + 1,
+                        Scored.WORST_FIRST);
+            }
+
+            private boolean accepts(final PriorityQueue<Scored> heap, double score, long rank) {
+                if (heap.size() < this.k) {
+                    return true;
+                }
+                final Scored worst = heap.peek();
+                int compare = Double.compare(score, worst.score);
+                return compare > 0 || (compare == 0 && rank < worst.rank);
+            }
+
+            private void add(final PriorityQueue<Scored> heap, final Scored scored) {
+                if (heap.size() == this.k) {
+                    heap.poll();
+                }
+                heap.add(scored);
+            }
+
+            private void share(double score) {
+                long current;
+                do {
+                    current = this.threshold.get();
+                } while (Double.compare(score, Double.longBitsToDouble(current)) > 0
+                        && !this.threshold.compareAndSet(current, Double.doubleToLongBits(score)));
+            }
+        }
+
+        /**
+         * Inner Class Scored
+         * Scored generation, identified by its lexicographic rank
+         */
+        private static class Scored {
+
+            private static final Comparator<Scored> WORST_FIRST = Comparator
+                    .comparingDouble((Scored scored) -> scored.score)
+                    .thenComparing(scored -> scored.rank, Comparator.reverseOrder());
+
+            private final double score;
+            private final long rank;
+            private final int[] index;
+
+            Scored(double score, long rank, final int[] index) {
+                this.score = score;
+                this.rank = rank;
+                this.index = index;
+            }
+        }
+
+        /**
+         * Inner Class IndexValues
+         * Values view of 1-based indexes
+         *
+         * @param <T>
+         */
+        private static class IndexValues<T> extends AbstractList<T> {
+
+            private final List<T> tArray;
+            private final int[] index;
+
+            IndexValues(final List<T> tArray, final int[] index) {
+                this.tArray = tArray;
+                this.index = index;
+            }
+
+            @Override
+            public T get(int i) {
+                return this.tArray.get(this.index[i] - 1);
+            }
+
+            @Override
+            public int size() {
+                return this.index.length;
+            }
+        }
+
         /**
          * Inner Class GeneratorRecursiveTask
          *
@@ -0,0 +1,65 @@
+package ml.kanfa.gen;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Interface SubsetGenerator
+ * Contains the subsets specific generations, the subsets of length p
+ * being the combinations of p values.
+ *
+ * @author Ibrahim Maïga <maiga.ibrm@gmail.com>.
+ */
+public interface SubsetGenerator<T> extends Generator<T> {
+
+    /**
+     * Returns all the subsets of the values as masks, bit i standing for the
+     * value i (0-based), in increasing unsigned order, the stream can be made parallel.
+     *
+     * @return all the subsets masks, the empty one included
+     * @throws IllegalArgumentException if there are more than 64 values
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    LongStream subsetMasks();
+
+    /**
+     * Same as {@link #subsetMasks()}, restricted to the subsets of p values,
+     * the only subset of length 0 being the empty one, mask 0.
+     *
+     * @param p subset length
+     * @return the subsets masks of length p, in increasing unsigned order
+     * @throws IllegalArgumentException if there are more than 64 values, or if p is not in [0, n]
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    LongStream subsetMasks(int p);
+
+    /**
+     * Same as {@link #subsetMasks(int)} for any number of values,
+     * the subsets are in lexicographic order of their values indexes.
+     *
+     * If the subsets count does not fit in a {@code long}, the stream is not sized
+     * and does not split, short-circuiting operations still work.
+     *
+     * @param p subset length
+     * @return the subsets of length p, bit i standing for the value i
+     * @throws IllegalArgumentException if p is not in [0, n]
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    Stream<BitSet> subsetBitSets(int p);
+
+    /**
+     * @param mask subset mask, bit i standing for the value i
+     * @return a view of the subset values, in values order
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    List<T> valuesOf(long mask);
+
+    /**
+     * @param bitSet subset, bit i standing for the value i
+     * @return the subset values, in values order
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    List<T> valuesOf(BitSet bitSet);
+}
\ No newline at end of file
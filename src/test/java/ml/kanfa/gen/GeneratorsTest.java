@@ -7,10 +7,14 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.BlockJUnit4ClassRunner;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -22,7 +26,7 @@ import java.util.stream.IntStream;
 @RunWith(BlockJUnit4ClassRunner.class)
 public class GeneratorsTest extends TestCase {
 
-    private Generator<String> combination = Generators.newCombination("A", "B", "C");
+    private SubsetGenerator<String> combination = Generators.newCombination("A", "B", "C");
     private Generator<String> permutation = Generators.newPermutation("A", "B");
     @Rule
     public ExpectedException exception = ExpectedException.none();
@@ -110,6 +114,205 @@ public class GeneratorsTest extends TestCase {
         assertEquals(words.size(), this.getCombinationLength(3, 2));
     }
 
+    @Test
+    public void generatePermutationLexicographic() {
+        List<String> words = Arrays.asList("CAB", "CBA", "ACB", "ABC", "BCA", "BAC");
+        assertEquals(words, toWords(getLexicographicPermutation().generateLexicographic(3)));
+    }
+
+    @Test
+    public void generatePermutationLexicographicWithComparator() {
+        List<String> words = Arrays.asList("ABC", "ACB", "BAC", "BCA", "CAB", "CBA");
+        assertEquals(words, toWords(getLexicographicPermutation().generateLexicographic(3, Comparator.naturalOrder())));
+        Collections.reverse(words);
+        assertEquals(words, toWords(getLexicographicPermutation().generateLexicographic(3, Comparator.reverseOrder())));
+    }
+
+    @Test
+    public void generateCombinationLexicographic() {
+        assertEquals(this.combination.generate(2), this.combination.generateLexicographic(2));
+    }
+
+    @Test
+    public void parallelLexicographicOrder() {
+        Generator<String> permutation = Generators.newPermutation("A", "B", "C", "D", "E", "F", "G", "H");
+        List<String> words = toWords(permutation.generateLexicographic(6));
+        assertEquals(this.getPermutationLength(8, 6), words.size());
+        IntStream.range(1, words.size()).forEach(i -> assertTrue(words.get(i - 1).compareTo(words.get(i)) < 0));
+    }
+
+    @Test
+    public void count() {
+        assertEquals(this.getPermutationLength(6, 4), Generators.newPermutation("A", "B", "C", "D", "E", "F").count(4));
+        assertEquals(this.getCombinationLength(3, 2), this.combination.count(2));
+    }
+
+    @Test
+    public void topKPermutation() {
+        Generator<String> permutation = Generators.newPermutation("A", "B", "C", "D", "E", "F", "G", "H");
+        List<String> target = Arrays.asList("H", "G", "F", "E", "D");
+        List<List<String>> best = permutation.topK(5, 3, list -> IntStream
+                .range(0, list.size())
+                .filter(i -> list.get(i).equals(target.get(i)))
+                .count());
+        assertEquals(Arrays.asList("HGFED", "AGFED", "BGFED"), toWords(best));
+    }
+
+    @Test
+    public void topKMatchesSortedGeneration() {
+        Generator<String> permutation = Generators.newPermutation("A", "B", "C", "D", "E", "F", "G");
+        List<List<String>> best = permutation.topK(5, 10, list -> list.indexOf("C") * 10 - list.indexOf("A"));
+        List<List<String>> all = permutation.generateLexicographic(5);
+        all.sort(Comparator.comparingDouble((List<String> list) -> list.indexOf("C") * 10 - list.indexOf("A")).reversed());
+        assertEquals(all.subList(0, 10), best);
+    }
+
+    @Test
+    public void topKWithLargeK() {
+        Generator<String> permutation = Generators.newPermutation("A", "B", "C", "D", "E", "F", "G", "H");
+        List<List<String>> best = permutation.topKByIndex(5, Integer.MAX_VALUE, index -> -index[0]);
+        assertEquals(permutation.generateLexicographic(5), best);
+    }
+
+    @Test
+    public void topKByIndexCombination() {
+        List<List<String>> best = this.combination.topKByIndex(2, 2, index -> index[0] + index[1]);
+        assertEquals(Arrays.asList("BC", "AC"), toWords(best));
+    }
+
+    @Test
+    public void topKNotANumberScore() {
+        Generator<String> permutation = getLexicographicPermutation();
+        assertEquals(Collections.singletonList("BAC"),
+                toWords(permutation.topK(3, 1, list -> String.join("", list).equals("BAC") ? Double.NaN : 1)));
+        assertEquals(Collections.singletonList("CAB"),
+                toWords(permutation.topK(3, 1, list -> String.join("", list).equals("CAB") ? Double.NaN : 1)));
+        assertEquals(Collections.singletonList("BAC"),
+                toWords(permutation.topK(3, 1, list -> String.join("", list).equals("BAC") ? 0.0 : -0.0)));
+    }
+
+    @Test
+    public void topKNegativeValueException() {
+        this.exception.expect(IllegalArgumentException.class);
+        this.exception.expectMessage("k <= 0");
+        this.combination.topK(2, 0, List::size);
+    }
+
+    @Test
+    public void forEachIndexRange() {
+        Generator<String> permutation = getLexicographicPermutation();
+        List<String> words = new ArrayList<>();
+        permutation.forEachIndex(3, 2, 5, index -> words.add(Arrays.toString(index)));
+        assertEquals(Arrays.asList("[2, 1, 3]", "[2, 3, 1]", "[3, 1, 2]"), words);
+    }
+
+    @Test
+    public void forEachIndexOutOfRangeException() {
+        this.exception.expect(IndexOutOfBoundsException.class);
+        this.combination.forEachIndex(2, 0, 4, index -> {
+        });
+    }
+
+    @Test
+    public void subsetMasks() {
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), this.combination.subsetMasks().boxed()
+                .collect(Collectors.toList()));
+        assertEquals(Arrays.asList(3L, 5L, 6L), this.combination.subsetMasks(2).boxed()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void parallelSubsetMasks() {
+        SubsetGenerator<Integer> combination = Generators.newCombination(IntStream.range(0, 24).boxed().toArray(Integer[]::new));
+        long[] masks = combination.subsetMasks(6).parallel().toArray();
+        assertEquals(combination.count(6), masks.length);
+        IntStream.range(1, masks.length).forEach(i -> assertTrue(masks[i - 1] < masks[i]));
+        assertTrue(Arrays.stream(masks).allMatch(mask -> Long.bitCount(mask) == 6));
+    }
+
+    @Test
+    public void subsetMasksOfSixtyFourValues() {
+        SubsetGenerator<Integer> combination = Generators.newCombination(IntStream.range(0, 64).boxed().toArray(Integer[]::new));
+        assertEquals(64, combination.subsetMasks(63).count());
+        assertEquals(-1L, combination.subsetMasks(64).findFirst().getAsLong());
+    }
+
+    @Test
+    public void subsetBitSetsMatchCombination() {
+        List<List<String>> lists = this.combination.subsetBitSets(2)
+                .parallel()
+                .map(this.combination::valuesOf)
+                .collect(Collectors.toList());
+        assertEquals(this.combination.generate(2), lists);
+    }
+
+    @Test
+    public void valuesOfMask() {
+        assertEquals(Arrays.asList("A", "C"), this.combination.valuesOf(5L));
+        assertEquals(Collections.emptyList(), this.combination.valuesOf(0L));
+    }
+
+    @Test
+    public void maskValuesAsList() {
+        List<String> values = this.combination.valuesOf(6L);
+        assertEquals("[B, C]", values.toString());
+        assertEquals(Arrays.asList("B", "C").hashCode(), values.hashCode());
+        assertTrue(values.equals(Arrays.asList("B", "C")));
+        assertFalse(values.equals(Arrays.asList("B", "C", "A")));
+        assertFalse(values.equals(Collections.singletonList("B")));
+    }
+
+    @Test
+    public void subsetBitSetsBeyondLongCount() {
+        SubsetGenerator<Integer> combination = Generators.newCombination(IntStream.range(0, 100).boxed().toArray(Integer[]::new));
+        List<List<Integer>> first = combination.subsetBitSets(50)
+                .limit(2)
+                .map(combination::valuesOf)
+                .collect(Collectors.toList());
+        List<Integer> values = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        assertEquals(values, first.get(0));
+        values.set(49, 50);
+        assertEquals(values, first.get(1));
+    }
+
+    @Test
+    public void subsetBitSetsOfManyValues() {
+        SubsetGenerator<Integer> combination = Generators.newCombination(IntStream.range(0, 100).boxed().toArray(Integer[]::new));
+        assertEquals(combination.count(3), combination.subsetBitSets(3).parallel().count());
+    }
+
+    @Test
+    public void subsetsOfLengthZero() {
+        assertEquals(Collections.singletonList(0L), this.combination.subsetMasks(0).boxed()
+                .collect(Collectors.toList()));
+        assertEquals(Collections.singletonList(new BitSet()), this.combination.subsetBitSets(0)
+                .collect(Collectors.toList()));
+        assertEquals(Collections.singletonList(7L), this.combination.subsetMasks(3).boxed()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void negativeSubsetLengthException() {
+        this.exception.expect(IllegalArgumentException.class);
+        this.exception.expectMessage("p < 0");
+        this.combination.subsetBitSets(-1);
+    }
+
+    @Test
+    public void tooManyValuesForMasksException() {
+        this.exception.expect(IllegalArgumentException.class);
+        this.exception.expectMessage("n > 64");
+        Generators.newCombination(new Integer[65]).subsetMasks(2);
+    }
+
+    private Generator<String> getLexicographicPermutation() {
+        return Generators.newPermutation("C", "A", "B");
+    }
+
+    private List<String> toWords(List<List<String>> lists) {
+        return lists.stream().map(list -> String.join("", list)).collect(Collectors.toList());
+    }
+
     private List<List<String>> getPermutation(int p) {
         Generator<String> generator = Generators.newPermutation("A", "B", "C");
         return generator.generate(p);